@@ -7,10 +7,19 @@ import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.tree.ClassNode;
 
 import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 
 public class Jar {
@@ -18,10 +27,48 @@ public class Jar {
     private final Map<String, ClassNode> classes = new HashMap<>();
     private final Map<String, byte[]> resources = new HashMap<>();
 
+    // Directory input: files are only indexed on load, class files are parsed on demand.
+    private Path sourceDirectory;
+    private final Map<String, Path> classFiles = new HashMap<>();
+    private final Map<String, Path> resourceFiles = new HashMap<>();
+    private final Set<String> modifiedClasses = new HashSet<>();
+
+    // DOS timestamps are stored in local time, so build the constant from local fields
+    // to get identical entry bytes in every time zone.
+    private static final long FIXED_ENTRY_TIME =
+        new GregorianCalendar(1980, Calendar.FEBRUARY, 1, 0, 0, 0).getTimeInMillis();
+
+    private boolean deterministic;
+    private long seed;
+
     public void addTransformer(Transformer transformer) {
         transformers.add(transformer);
     }
 
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void load(File source) throws IOException {
+        if (source.isDirectory()) {
+            loadDirectory(source);
+        } else {
+            loadJar(source);
+        }
+    }
+
     public void loadJar(File jarFile) throws IOException {
         try (JarFile jar = new JarFile(jarFile)) {
             Enumeration<JarEntry> entries = jar.entries();
@@ -43,59 +90,322 @@ public class Jar {
         }
     }
 
+    public void loadDirectory(File directory) throws IOException {
+        Path root = directory.toPath().toAbsolutePath().normalize();
+        Map<String, Path> foundClasses = new ConcurrentHashMap<>();
+        Map<String, Path> foundResources = new ConcurrentHashMap<>();
+
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.parallel()
+                .filter(Files::isRegularFile)
+                .forEach(path -> {
+                    String name = entryName(root, path);
+                    if (name.endsWith(".class")) {
+                        foundClasses.put(name, path);
+                    } else {
+                        foundResources.put(name, path);
+                    }
+                });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        sourceDirectory = root;
+        classFiles.putAll(foundClasses);
+        resourceFiles.putAll(foundResources);
+    }
+
     public void transform() {
-        for (ClassNode classNode : classes.values()) {
-            for (Transformer transformer : transformers) {
-                transformer.visit(classNode);
-            }
+        loadClasses(classFiles.keySet());
+        for (Map.Entry<String, ClassNode> entry : classEntries()) {
+            visit(entry.getKey(), entry.getValue());
         }
     }
 
     public void transform(Set<String> selectedClassNames) {
-        for (Map.Entry<String, ClassNode> entry : classes.entrySet()) {
+        loadClasses(selectedClassNames);
+        for (Map.Entry<String, ClassNode> entry : classEntries()) {
             if (selectedClassNames.contains(entry.getKey())) {
-                for (Transformer transformer : transformers) {
-                    transformer.visit(entry.getValue());
-                }
+                visit(entry.getKey(), entry.getValue());
             }
         }
     }
 
-    public void saveJar(File outputFile) throws IOException {
-        try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(outputFile))) {
-            for (Map.Entry<String, ClassNode> entry : classes.entrySet()) {
-                ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
-                entry.getValue().accept(writer);
+    // Only classes a transformer actually changed are rewritten by saveDirectory.
+    private void visit(String name, ClassNode classNode) {
+        boolean modified = false;
+        for (Transformer transformer : transformers) {
+            modified |= transformer.visit(classNode);
+        }
+        if (modified) {
+            modifiedClasses.add(name);
+        }
+    }
 
-                ZipEntry zipEntry = new ZipEntry(entry.getKey());
-                jos.putNextEntry(zipEntry);
-                jos.write(writer.toByteArray());
-                jos.closeEntry();
+    public int getModifiedClassCount() {
+        return modifiedClasses.size();
+    }
+
+    private void loadClasses(Collection<String> names) {
+        List<String> pending = new ArrayList<>();
+        for (String name : names) {
+            if (!classes.containsKey(name) && classFiles.containsKey(name)) {
+                pending.add(name);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<String, ClassNode> loaded = new ConcurrentHashMap<>();
+        pending.parallelStream().forEach(name -> {
+            try {
+                ClassReader reader = new ClassReader(Files.readAllBytes(classFiles.get(name)));
+                ClassNode classNode = new ClassNode();
+                reader.accept(classNode, 0);
+                loaded.put(name, classNode);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + name, e);
             }
+        });
+        classes.putAll(loaded);
+    }
+
+    public String save(File target) throws IOException {
+        if (isDirectoryTarget(target)) {
+            saveDirectory(target);
+            return null;
+        }
+        return saveJar(target);
+    }
+
+    private boolean isDirectoryTarget(File target) {
+        if (target.isDirectory()) {
+            return true;
+        }
+        return !target.exists() && sourceDirectory != null
+            && !target.getName().toLowerCase(Locale.ROOT).endsWith(".jar");
+    }
 
-            for (Map.Entry<String, byte[]> entry : resources.entrySet()) {
-                ZipEntry zipEntry = new ZipEntry(entry.getKey());
-                jos.putNextEntry(zipEntry);
-                jos.write(entry.getValue());
+    public String saveJar(File outputFile) throws IOException {
+        MessageDigest digest = newDigest();
+        try (JarOutputStream jos = new JarOutputStream(new BufferedOutputStream(
+                new DigestOutputStream(new FileOutputStream(outputFile), digest)))) {
+            for (String name : entryNames()) {
+                jos.putNextEntry(createEntry(name));
+                jos.write(entryData(name));
                 jos.closeEntry();
             }
         }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Writes changed classes in place with temp file + atomic move. Other files are only
+    // copied when the target is a different directory and its copy is missing or stale.
+    public void saveDirectory(File outputDirectory) throws IOException {
+        Path target = outputDirectory.toPath().toAbsolutePath().normalize();
+        Files.createDirectories(target);
+        boolean inPlace = sourceDirectory != null && Files.isSameFile(sourceDirectory, target);
+
+        // Validate every entry before writing anything so a bad name cannot leave a partial output.
+        Map<String, Path> outputs = new LinkedHashMap<>();
+        for (String name : entryNames()) {
+            if (!inPlace || modifiedClasses.contains(name)) {
+                outputs.put(name, resolveEntry(target, name));
+            }
+        }
+
+        try {
+            outputs.entrySet().parallelStream().forEach(output -> {
+                String name = output.getKey();
+                Path outputPath = output.getValue();
+                try {
+                    Path sourcePath = unchangedSourceFile(name);
+                    if (sourcePath != null) {
+                        copyIfStale(sourcePath, outputPath);
+                    } else {
+                        Path existing = Files.exists(outputPath) ? outputPath : classFiles.get(name);
+                        writeAtomically(outputPath, entryData(name), existing);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not write " + name, e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Path unchangedSourceFile(String name) {
+        if (modifiedClasses.contains(name)) {
+            return null;
+        }
+        Path path = classFiles.get(name);
+        return path != null ? path : resourceFiles.get(name);
+    }
+
+    private static void copyIfStale(Path source, Path target) throws IOException {
+        if (Files.exists(target)) {
+            BasicFileAttributes sourceAttributes = Files.readAttributes(source, BasicFileAttributes.class);
+            BasicFileAttributes targetAttributes = Files.readAttributes(target, BasicFileAttributes.class);
+            if (sourceAttributes.size() == targetAttributes.size()
+                    && sourceAttributes.lastModifiedTime().equals(targetAttributes.lastModifiedTime())) {
+                return;
+            }
+        }
+        Files.createDirectories(target.getParent());
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+    }
+
+    // Rejects absolute names and ".." segments so entries cannot escape the target directory.
+    private static Path resolveEntry(Path target, String name) throws IOException {
+        if (name.isEmpty() || name.startsWith("/") || name.startsWith("\\")
+                || name.matches("[A-Za-z]:.*")) {
+            throw new IOException("Illegal entry name: " + name);
+        }
+        for (String segment : name.split("[/\\\\]")) {
+            if (segment.equals("..")) {
+                throw new IOException("Illegal entry name: " + name);
+            }
+        }
+        Path resolved = target.resolve(name).normalize();
+        if (!resolved.startsWith(target) || resolved.equals(target)) {
+            throw new IOException("Entry escapes output directory: " + name);
+        }
+        return resolved;
+    }
+
+    // The temp file is created with the default mode for new files; when the class replaces or
+    // mirrors an existing file, that file's POSIX permissions are copied over before the move.
+    private static void writeAtomically(Path target, byte[] data, Path permissionSource) throws IOException {
+        Path directory = target.getParent();
+        Files.createDirectories(directory);
+        Path temp = createTempSibling(target);
+        try {
+            Files.write(temp, data);
+            copyPermissions(permissionSource, temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static Path createTempSibling(Path target) throws IOException {
+        while (true) {
+            Path temp = target.resolveSibling("." + target.getFileName() + "."
+                + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp");
+            try {
+                // Unlike Files.createTempFile this honours the umask instead of forcing 0600.
+                Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE).close();
+                return temp;
+            } catch (FileAlreadyExistsException e) {
+                // Name clash, try another one.
+            }
+        }
+    }
+
+    private static void copyPermissions(Path source, Path target) throws IOException {
+        if (source == null || !Files.exists(source)) {
+            return;
+        }
+        PosixFileAttributeView sourceView = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+        PosixFileAttributeView targetView = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (sourceView != null && targetView != null) {
+            targetView.setPermissions(sourceView.readAttributes().permissions());
+        }
+    }
+
+    private byte[] entryData(String name) throws IOException {
+        ClassNode classNode = classes.get(name);
+        if (classNode != null) {
+            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+            classNode.accept(writer);
+            return writer.toByteArray();
+        }
+        byte[] data = resources.get(name);
+        if (data != null) {
+            return data;
+        }
+        Path path = classFiles.get(name);
+        return Files.readAllBytes(path != null ? path : resourceFiles.get(name));
+    }
+
+    private ZipEntry createEntry(String name) {
+        ZipEntry zipEntry = new ZipEntry(name);
+        if (deterministic) {
+            zipEntry.setTime(FIXED_ENTRY_TIME);
+            zipEntry.setMethod(ZipEntry.DEFLATED);
+        }
+        return zipEntry;
+    }
+
+    private Collection<Map.Entry<String, ClassNode>> classEntries() {
+        return deterministic ? new TreeMap<>(classes).entrySet() : classes.entrySet();
+    }
+
+    private List<String> entryNames() {
+        Set<String> names = new LinkedHashSet<>(classes.keySet());
+        names.addAll(classFiles.keySet());
+        names.addAll(resources.keySet());
+        names.addAll(resourceFiles.keySet());
+        List<String> ordered = new ArrayList<>(names);
+        if (deterministic) {
+            ordered.sort(Comparator.comparingInt(Jar::entryRank).thenComparing(Comparator.naturalOrder()));
+        }
+        return ordered;
+    }
+
+    private static String entryName(Path root, Path path) {
+        return root.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    // The manifest and signature files must lead the archive for JarInputStream and jarsigner.
+    private static int entryRank(String name) {
+        String upper = name.toUpperCase(Locale.ROOT);
+        if (upper.equals(JarFile.MANIFEST_NAME)) {
+            return 0;
+        }
+        if (upper.startsWith("META-INF/") && upper.indexOf('/', "META-INF/".length()) < 0) {
+            if (upper.endsWith(".SF")) {
+                return 1;
+            }
+            if (upper.endsWith(".RSA") || upper.endsWith(".DSA") || upper.endsWith(".EC")
+                    || upper.startsWith("META-INF/SIG-")) {
+                return 2;
+            }
+        }
+        return 3;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     public Collection<ClassNode> getClasses() {
+        loadClasses(classFiles.keySet());
         return classes.values();
     }
 
     public int getClassCount() {
-        return classes.size();
+        return getClassNames().size();
     }
 
     public Set<String> getClassNames() {
-        return new HashSet<>(classes.keySet());
+        Set<String> classNames = new HashSet<>(classes.keySet());
+        classNames.addAll(classFiles.keySet());
+        return classNames;
     }
 
     public List<String> getClassNamesList() {
-        List<String> classNames = new ArrayList<>(classes.keySet());
+        List<String> classNames = new ArrayList<>(getClassNames());
         Collections.sort(classNames);
         return classNames;
     }
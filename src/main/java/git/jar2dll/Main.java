@@ -1,18 +1,15 @@
 package git.jar2dll;
 
+import git.jar2dll.cli.ImageInjectorCLI;
 import git.jar2dll.gui.ImageInjectorGUI;
 
-import javax.swing.*;
-
 public class Main {
     public static void main(String[] args) {
-        try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-        } catch (Exception e) {
+        // Only the GUI path may touch AWT/Swing; batch runs stay headless.
+        if (args.length > 0 || Boolean.getBoolean("java.awt.headless")) {
+            System.exit(new ImageInjectorCLI(args).run());
         }
 
-        SwingUtilities.invokeLater(() -> {
-            new ImageInjectorGUI().setVisible(true);
-        });
+        ImageInjectorGUI.launch();
     }
 }
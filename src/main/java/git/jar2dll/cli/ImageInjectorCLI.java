@@ -0,0 +1,179 @@
+package git.jar2dll.cli;
+
+import git.jar2dll.Jar;
+import git.jar2dll.transformers.ASCIIArtTransformer;
+import git.jar2dll.utils.ImageToAscii;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ImageInjectorCLI {
+    private final String[] args;
+
+    private File inputFile;
+    private File outputFile;
+    private final List<File> images = new ArrayList<>();
+    private final Set<String> selectedClassNames = new HashSet<>();
+    private int asciiWidth = -1;
+    private boolean deterministic;
+    private long seed;
+
+    public ImageInjectorCLI(String[] args) {
+        this.args = args;
+    }
+
+    public int run() {
+        long startNanos = System.nanoTime();
+
+        try {
+            parseArguments();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            printUsage();
+            return 2;
+        }
+
+        // Keep the CLI path away from any toolkit/display initialization.
+        System.setProperty("java.awt.headless", "true");
+
+        try {
+            process();
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        log("Finished in " + elapsedMillis + " ms" + sinceJvmStart());
+        return 0;
+    }
+
+    private void parseArguments() {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-i", "--input" -> inputFile = new File(value(arg, ++i));
+                case "-o", "--output" -> outputFile = new File(value(arg, ++i));
+                case "-m", "--image" -> images.add(new File(value(arg, ++i)));
+                case "-c", "--class" -> selectedClassNames.add(toEntryName(value(arg, ++i)));
+                case "-w", "--width" -> {
+                    try {
+                        asciiWidth = Integer.parseInt(value(arg, ++i));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid width: " + args[i]);
+                    }
+                    if (asciiWidth <= 0) {
+                        throw new IllegalArgumentException("Width must be positive: " + asciiWidth);
+                    }
+                }
+                case "-r", "--reproducible" -> deterministic = true;
+                case "-s", "--seed" -> {
+                    try {
+                        seed = Long.parseLong(value(arg, ++i));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid seed: " + args[i]);
+                    }
+                    deterministic = true;
+                }
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        if (inputFile == null) {
+            throw new IllegalArgumentException("No input JAR specified");
+        }
+        if (images.isEmpty()) {
+            throw new IllegalArgumentException("No images specified");
+        }
+        if (outputFile == null) {
+            String inputPath = inputFile.getAbsolutePath();
+            int dot = inputPath.lastIndexOf('.');
+            outputFile = !inputFile.isDirectory() && dot > inputPath.lastIndexOf(File.separatorChar)
+                ? new File(inputPath.substring(0, dot) + "_injected" + inputPath.substring(dot))
+                : new File(inputPath + "_injected");
+        }
+    }
+
+    private String value(String option, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static String toEntryName(String className) {
+        if (className.endsWith(".class")) {
+            return className;
+        }
+        return className.replace('.', '/') + ".class";
+    }
+
+    private void process() throws Exception {
+        log("Loading classes from " + inputFile.getName() + "...");
+        Jar jar = new Jar();
+        jar.setDeterministic(deterministic);
+        jar.setSeed(seed);
+        jar.load(inputFile);
+        log("Loaded " + jar.getClassCount() + " classes");
+
+        String[] asciiImages = new String[images.size()];
+        for (int i = 0; i < images.size(); i++) {
+            File imageFile = images.get(i);
+            log("Converting image " + (i + 1) + "/" + images.size() + ": " + imageFile.getName());
+            asciiImages[i] = ImageToAscii.convertImageToAscii(imageFile, asciiWidth);
+        }
+
+        Set<String> targets = selectedClassNames.isEmpty() ? jar.getClassNames() : selectedClassNames;
+        log("Selected " + targets.size() + " classes for injection");
+
+        ASCIIArtTransformer transformer = new ASCIIArtTransformer(jar, asciiImages, targets);
+        jar.addTransformer(transformer);
+        jar.transform(targets);
+
+        int skipped = targets.size() - transformer.getProcessedClassCount();
+        if (skipped > 0) {
+            log("Warning: " + skipped + " selected classes were not injected because their entry path does not"
+                + " match the class name (e.g. a build/classes root or META-INF/versions entries)");
+        }
+
+        log("Saving output...");
+        String outputHash = jar.save(outputFile);
+
+        log("Output: " + outputFile.getAbsolutePath());
+        if (outputHash != null) {
+            log("Output SHA-256: " + outputHash + (deterministic ? " (reproducible, seed " + seed + ")" : ""));
+        }
+        log("Processed " + transformer.getProcessedClassCount() + " classes");
+    }
+
+    private static String sinceJvmStart() {
+        return ProcessHandle.current().info().startInstant()
+            .map(start -> ", " + Duration.between(start, Instant.now()).toMillis() + " ms since JVM start")
+            .orElse("");
+    }
+
+    private static void log(String message) {
+        System.out.println(message);
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: java -jar ImageInjector.jar --input <jar|dir> --image <file> [--image <file> ...]");
+        System.err.println("         [--width <chars>] [--class <name> ...] [--output <jar|dir>] [--reproducible] [--seed <n>]");
+        System.err.println();
+        System.err.println("  -i, --input   JAR file or class directory to inject into");
+        System.err.println("  -m, --image   image to convert to ASCII art (repeatable)");
+        System.err.println("  -w, --width   ASCII width in characters (default: original image size)");
+        System.err.println("  -c, --class   class to inject into, e.g. com.example.Foo (repeatable, default: all)");
+        System.err.println("  -o, --output  output JAR or directory (default: <input>_injected[.jar]);");
+        System.err.println("                pass the input directory to rewrite only the injected classes in place");
+        System.err.println("  -r, --reproducible  byte-for-byte reproducible output (sorted entries, fixed timestamps)");
+        System.err.println("  -s, --seed    seed for reproducible field names (implies --reproducible, default: 0)");
+        System.err.println();
+        System.err.println("Run without arguments to start the GUI.");
+    }
+}
@@ -8,13 +8,18 @@ import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 public class ImageInjectorGUI extends JFrame {
+    private static final int DEFAULT_LOG_LINES = 5000;
+
     private JTextField jarFileField;
     private JList<String> imageList;
     private DefaultListModel<String> imageListModel;
@@ -28,13 +33,26 @@ public class ImageInjectorGUI extends JFrame {
     private JButton deselectAllClassesButton;
     private JButton processButton;
     private JTextArea logArea;
+    private LogSink logSink;
     private JProgressBar progressBar;
     private JSpinner asciiWidthSpinner;
     private JCheckBox useOriginalSizeCheckBox;
+    private JCheckBox reproducibleCheckBox;
+    private JSpinner seedSpinner;
 
     private File selectedJarFile;
     private List<File> selectedImages;
-    private Jar currentJar;
+
+    public static void launch() {
+        SwingUtilities.invokeLater(() -> {
+            try {
+                UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+            } catch (Exception e) {
+            }
+
+            new ImageInjectorGUI().setVisible(true);
+        });
+    }
 
     public ImageInjectorGUI() {
         selectedImages = new ArrayList<>();
@@ -69,17 +87,38 @@ public class ImageInjectorGUI extends JFrame {
 
         useOriginalSizeCheckBox = new JCheckBox("Use Original Image Size (1:1 pixel mapping)", true);
 
+        reproducibleCheckBox = new JCheckBox("Reproducible Output (same input, same bytes)", false);
+        seedSpinner = new JSpinner(new SpinnerNumberModel(Long.valueOf(0), Long.valueOf(Long.MIN_VALUE),
+            Long.valueOf(Long.MAX_VALUE), Long.valueOf(1)));
+        seedSpinner.setEditor(new JSpinner.NumberEditor(seedSpinner, "#"));
+
         processButton = new JButton("Process JAR");
         processButton.setEnabled(false);
 
         logArea = new JTextArea();
         logArea.setEditable(false);
         logArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        logSink = createLogSink();
 
         progressBar = new JProgressBar();
         progressBar.setStringPainted(true);
     }
 
+    private LogSink createLogSink() {
+        int maxLines = Math.max(1, Integer.getInteger("imageinjector.log.maxLines", DEFAULT_LOG_LINES));
+        LogSink sink = new LogSink(logArea, maxLines);
+
+        String logFile = System.getProperty("imageinjector.log.file");
+        if (logFile != null) {
+            try {
+                sink.writeTo(new File(logFile));
+            } catch (IOException e) {
+                sink.log("Could not open log file " + logFile + ": " + e.getMessage());
+            }
+        }
+        return sink;
+    }
+
     private void setupLayout() {
         setLayout(new BorderLayout());
 
@@ -127,6 +166,14 @@ public class ImageInjectorGUI extends JFrame {
         settingsPanel.add(asciiWidthSpinner, gbc);
 
         gbc.gridx = 0; gbc.gridy = 2; gbc.gridwidth = 2; gbc.fill = GridBagConstraints.HORIZONTAL;
+        settingsPanel.add(reproducibleCheckBox, gbc);
+
+        gbc.gridx = 0; gbc.gridy = 3; gbc.gridwidth = 1; gbc.anchor = GridBagConstraints.WEST; gbc.fill = GridBagConstraints.NONE;
+        settingsPanel.add(new JLabel("Seed:"), gbc);
+        gbc.gridx = 1; gbc.fill = GridBagConstraints.HORIZONTAL;
+        settingsPanel.add(seedSpinner, gbc);
+
+        gbc.gridx = 0; gbc.gridy = 4; gbc.gridwidth = 2; gbc.fill = GridBagConstraints.HORIZONTAL;
         settingsPanel.add(processButton, gbc);
 
         JPanel classesPanel = new JPanel(new BorderLayout());
@@ -166,11 +213,20 @@ public class ImageInjectorGUI extends JFrame {
         deselectAllClassesButton.addActionListener(e -> deselectAllClasses());
         processButton.addActionListener(e -> processJar());
 
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                logSink.close();
+            }
+        });
+
         useOriginalSizeCheckBox.addActionListener(e -> {
             boolean useOriginal = useOriginalSizeCheckBox.isSelected();
             asciiWidthSpinner.setEnabled(!useOriginal);
         });
 
+        reproducibleCheckBox.addActionListener(e -> seedSpinner.setEnabled(reproducibleCheckBox.isSelected()));
+
         classList.addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
                 updateProcessButtonState();
@@ -178,16 +234,18 @@ public class ImageInjectorGUI extends JFrame {
         });
 
         asciiWidthSpinner.setEnabled(!useOriginalSizeCheckBox.isSelected());
+        seedSpinner.setEnabled(reproducibleCheckBox.isSelected());
     }
 
     private void selectJarFile() {
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setFileFilter(new FileNameExtensionFilter("JAR Files", "jar"));
+        fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+        fileChooser.setFileFilter(new FileNameExtensionFilter("JAR Files or Class Directories", "jar"));
 
         if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
             selectedJarFile = fileChooser.getSelectedFile();
             jarFileField.setText(selectedJarFile.getAbsolutePath());
-            log("Selected JAR file: " + selectedJarFile.getName());
+            log((selectedJarFile.isDirectory() ? "Selected class directory: " : "Selected JAR file: ") + selectedJarFile.getName());
             loadClassesFromJar();
         }
     }
@@ -202,10 +260,10 @@ public class ImageInjectorGUI extends JFrame {
             protected Void doInBackground() throws Exception {
                 publish("Loading classes from JAR...");
 
-                currentJar = new Jar();
-                currentJar.loadJar(selectedJarFile);
+                Jar jar = new Jar();
+                jar.load(selectedJarFile);
 
-                List<String> classNames = currentJar.getClassNamesList();
+                List<String> classNames = jar.getClassNamesList();
 
                 SwingUtilities.invokeLater(() -> {
                     classListModel.clear();
@@ -363,25 +421,46 @@ public class ImageInjectorGUI extends JFrame {
                     selectedClassNames.add(classListModel.getElementAt(index));
                 }
 
-                publish("Found " + currentJar.getClassCount() + " classes in JAR");
+                // Start from a freshly loaded source every run so transformers from an earlier
+                // click are not applied again and reproducible output stays reproducible.
+                boolean reproducible = reproducibleCheckBox.isSelected();
+                Jar jar = new Jar();
+                jar.setDeterministic(reproducible);
+                jar.setSeed(((Number) seedSpinner.getValue()).longValue());
+                jar.load(selectedJarFile);
+                publish("Found " + jar.getClassCount() + " classes in JAR");
                 publish("Selected " + selectedClassNames.size() + " classes for injection");
 
-                ASCIIArtTransformer transformer = new ASCIIArtTransformer(currentJar, asciiImages, selectedClassNames);
-                currentJar.addTransformer(transformer);
+                ASCIIArtTransformer transformer = new ASCIIArtTransformer(jar, asciiImages, selectedClassNames);
+                jar.addTransformer(transformer);
 
                 publish("Injecting ASCII art into selected classes...");
-                currentJar.transform(selectedClassNames);
+                jar.transform(selectedClassNames);
+
+                int skipped = selectedClassNames.size() - transformer.getProcessedClassCount();
+                if (skipped > 0) {
+                    publish("Warning: " + skipped + " selected classes were not injected because their entry path"
+                        + " does not match the class name (e.g. a build/classes root or META-INF/versions entries)");
+                }
 
                 String outputPath = selectedJarFile.getAbsolutePath();
-                String baseName = outputPath.substring(0, outputPath.lastIndexOf('.'));
-                String extension = outputPath.substring(outputPath.lastIndexOf('.'));
-                File outputFile = new File(baseName + "_injected" + extension);
+                File outputFile;
+                if (selectedJarFile.isDirectory()) {
+                    outputFile = new File(outputPath + "_injected");
+                } else {
+                    String baseName = outputPath.substring(0, outputPath.lastIndexOf('.'));
+                    String extension = outputPath.substring(outputPath.lastIndexOf('.'));
+                    outputFile = new File(baseName + "_injected" + extension);
+                }
 
-                publish("Saving modified JAR...");
-                currentJar.saveJar(outputFile);
+                publish("Saving output...");
+                String outputHash = jar.save(outputFile);
 
                 publish("Process completed successfully!");
-                publish("Output file: " + outputFile.getAbsolutePath());
+                publish("Output: " + outputFile.getAbsolutePath());
+                if (outputHash != null) {
+                    publish("Output SHA-256: " + outputHash + (reproducible ? " (reproducible)" : ""));
+                }
                 publish("Processed " + transformer.getProcessedClassCount() + " classes");
 
                 return null;
@@ -420,9 +499,6 @@ public class ImageInjectorGUI extends JFrame {
     }
 
     private void log(String message) {
-        SwingUtilities.invokeLater(() -> {
-            logArea.append("[" + java.time.LocalTime.now().toString() + "] " + message + "\n");
-            logArea.setCaretPosition(logArea.getDocument().getLength());
-        });
+        logSink.log(message);
     }
 }
@@ -0,0 +1,176 @@
+package git.jar2dll.gui;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Collects log lines from any thread and flushes them to the text area in one EDT
+// update per frame. The view keeps at most maxLines; the optional file gets every line
+// unless the writer falls more than FILE_QUEUE_CAPACITY lines behind.
+public class LogSink {
+    private static final int FRAMES_PER_SECOND = 30;
+    private static final int FILE_QUEUE_CAPACITY = 10_000;
+
+    private final JTextArea logArea;
+    private final int maxLines;
+    private final ArrayDeque<String> pending = new ArrayDeque<>();
+    private final Timer flushTimer;
+    private int droppedLines;
+
+    // Cleared on close or writer failure so nothing queues lines that will never be written.
+    private volatile BlockingQueue<String> fileQueue;
+    private volatile boolean closed;
+    private final AtomicInteger droppedFileLines = new AtomicInteger();
+    private Thread fileWriter;
+
+    public LogSink(JTextArea logArea, int maxLines) {
+        this.logArea = logArea;
+        this.maxLines = maxLines;
+
+        flushTimer = new Timer(1000 / FRAMES_PER_SECOND, e -> flush());
+        flushTimer.setCoalesce(true);
+        flushTimer.start();
+    }
+
+    // Appends every subsequent line to the file from a background thread.
+    public synchronized void writeTo(File logFile) throws IOException {
+        if (fileWriter != null) {
+            throw new IllegalStateException("Log file already set");
+        }
+
+        if (closed) {
+            throw new IllegalStateException("Log sink closed");
+        }
+
+        // FileOutputStream is not an interruptible channel, so interrupting the writer on close
+        // cannot abort a write half way.
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+            new FileOutputStream(logFile, true), StandardCharsets.UTF_8));
+        BlockingQueue<String> queue = new LinkedBlockingQueue<>(FILE_QUEUE_CAPACITY);
+        fileWriter = new Thread(() -> writeFile(writer, queue), "log-file-writer");
+        fileWriter.setDaemon(true);
+        fileWriter.start();
+        fileQueue = queue;
+    }
+
+    public void log(String message) {
+        String line = "[" + LocalTime.now() + "] " + message;
+
+        synchronized (pending) {
+            if (pending.size() >= maxLines) {
+                pending.pollFirst();
+                droppedLines++;
+            }
+            pending.addLast(line);
+        }
+
+        BlockingQueue<String> queue = fileQueue;
+        if (queue != null && !queue.offer(line)) {
+            droppedFileLines.incrementAndGet();
+        }
+    }
+
+    private void flush() {
+        List<String> lines;
+        int dropped;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            lines = new ArrayList<>(pending);
+            pending.clear();
+            dropped = droppedLines;
+            droppedLines = 0;
+        }
+
+        StringBuilder text = new StringBuilder();
+        if (dropped > 0) {
+            text.append("... ").append(dropped).append(" line(s) dropped ...\n");
+        }
+        for (String line : lines) {
+            text.append(line).append('\n');
+        }
+
+        logArea.append(text.toString());
+        trimView();
+        logArea.setCaretPosition(logArea.getDocument().getLength());
+    }
+
+    private void trimView() {
+        // The trailing newline leaves an empty last line that does not count.
+        int excess = logArea.getLineCount() - 1 - maxLines;
+        if (excess <= 0) {
+            return;
+        }
+        try {
+            logArea.replaceRange(null, 0, logArea.getLineEndOffset(excess - 1));
+        } catch (BadLocationException e) {
+            logArea.setText("");
+        }
+    }
+
+    private void writeFile(BufferedWriter writer, BlockingQueue<String> queue) {
+        List<String> batch = new ArrayList<>();
+        try (writer) {
+            while (!closed) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    // close() interrupts to stop the writer; what is queued is written below.
+                }
+                queue.drainTo(batch);
+                writeBatch(writer, batch);
+            }
+            queue.drainTo(batch);
+            writeBatch(writer, batch);
+        } catch (IOException e) {
+            // Logging to the file is best effort; the view keeps working.
+        } finally {
+            fileQueue = null;
+            queue.clear();
+        }
+    }
+
+    private void writeBatch(BufferedWriter writer, List<String> batch) throws IOException {
+        int dropped = droppedFileLines.getAndSet(0);
+        if (dropped > 0) {
+            writer.write("... " + dropped + " line(s) dropped ...");
+            writer.newLine();
+        }
+        for (String line : batch) {
+            writer.write(line);
+            writer.newLine();
+        }
+        writer.flush();
+        batch.clear();
+    }
+
+    // Must be called on the EDT.
+    public synchronized void close() {
+        closed = true;
+        fileQueue = null;
+        flushTimer.stop();
+        flush();
+
+        if (fileWriter != null) {
+            fileWriter.interrupt();
+            try {
+                fileWriter.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import git.jar2dll.utils.NameUtils;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.FieldNode;
 
+import java.util.Random;
 import java.util.Set;
 
 public class ASCIIArtTransformer extends Transformer {
@@ -12,6 +13,7 @@ public class ASCIIArtTransformer extends Transformer {
     private final Set<String> selectedClassNames;
     private int currentImageIndex = 0;
     private int classCounter = 0;
+    private Random fieldNames;
 
     public ASCIIArtTransformer(Jar obf, String[] asciiImages) {
         super(obf);
@@ -28,7 +30,7 @@ public class ASCIIArtTransformer extends Transformer {
     public void addString(ClassNode classNode, String value) {
         classNode.fields.add(new FieldNode(
             org.objectweb.asm.Opcodes.ACC_PUBLIC + org.objectweb.asm.Opcodes.ACC_STATIC + org.objectweb.asm.Opcodes.ACC_FINAL,
-            NameUtils.getRandomString(),
+            fieldNames != null ? NameUtils.getRandomString(fieldNames) : NameUtils.getRandomString(),
             "Ljava/lang/String;",
             null,
             value
@@ -36,26 +38,31 @@ public class ASCIIArtTransformer extends Transformer {
     }
 
     @Override
-    public void visit(ClassNode classNode) {
+    public boolean visit(ClassNode classNode) {
         if (asciiImages == null || asciiImages.length == 0) {
-            return;
+            return false;
         }
 
         if (selectedClassNames != null && !shouldProcessClass(classNode)) {
-            return;
+            return false;
         }
 
+        fieldNames = jar.isDeterministic() ? NameUtils.seededRandom(jar.getSeed(), classNode.name) : null;
+
         String currentAscii = asciiImages[currentImageIndex];
         String[] lines = currentAscii.split("\n");
+        boolean modified = false;
 
         for (String line : lines) {
             if (!line.trim().isEmpty()) {
                 addString(classNode, line);
+                modified = true;
             }
         }
 
         currentImageIndex = (currentImageIndex + 1) % asciiImages.length;
         classCounter++;
+        return modified;
     }
 
     private boolean shouldProcessClass(ClassNode classNode) {
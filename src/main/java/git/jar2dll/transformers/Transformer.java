@@ -10,5 +10,6 @@ public abstract class Transformer {
         this.jar = jar;
     }
 
-    public abstract void visit(ClassNode classNode);
+    // Returns true when the class was changed and needs to be written back.
+    public abstract boolean visit(ClassNode classNode);
 }
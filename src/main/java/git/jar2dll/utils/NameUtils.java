@@ -11,10 +11,23 @@ public class NameUtils {
     }
 
     public static String getRandomString(int length) {
+        return getRandomString(random, length);
+    }
+
+    public static String getRandomString(Random random) {
+        return getRandomString(random, 8);
+    }
+
+    public static String getRandomString(Random random, int length) {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < length; i++) {
             sb.append(CHARS.charAt(random.nextInt(CHARS.length())));
         }
         return sb.toString();
     }
+
+    // String.hashCode is specified by the JLS, so the sequence is stable across JVMs.
+    public static Random seededRandom(long seed, String className) {
+        return new Random(seed * 31 + className.hashCode());
+    }
 }